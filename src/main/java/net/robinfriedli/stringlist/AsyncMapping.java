@@ -0,0 +1,141 @@
+package net.robinfriedli.stringlist;
+
+import com.google.common.collect.Lists;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Transforms the values of a list through asynchronous operations while keeping the order of the values.
+ */
+final class AsyncMapping {
+
+    private AsyncMapping() {
+    }
+
+    /**
+     * Apply the mapper to each value, starting the operation for the next value whenever one of at most maxInFlight
+     * pending operations completes. Fails with the first exception thrown or returned by the mapper, in which case no
+     * further operations are started.
+     */
+    static CompletableFuture<StringList> mapAsync(List<String> values, Function<String, CompletableFuture<String>> mapper, int maxInFlight) {
+        return map(Lists.newArrayList(values), mapper, maxInFlight).thenApply(StringListImpl::new);
+    }
+
+    /**
+     * Apply the mapper to consecutive batches of batchSize values, each on the provided executor, and join the results
+     * in order. A batch is only submitted once one of at most maxInFlight running batches completed. Fails with the
+     * first exception thrown by the mapper, in which case no further batches are submitted.
+     */
+    static CompletableFuture<StringList> mapBatched(List<String> values, Function<List<String>, List<String>> mapper, int batchSize, int maxInFlight, Executor executor) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+
+        List<List<String>> batches = Lists.partition(Lists.newArrayList(values), batchSize);
+        Function<List<String>, CompletableFuture<List<String>>> batchMapper = batch -> CompletableFuture.supplyAsync(() -> {
+            List<String> mapped = mapper.apply(batch);
+            if (mapped.size() != batch.size()) {
+                throw new IllegalStateException("Mapper returned " + mapped.size() + " values for a batch of " + batch.size());
+            }
+            return mapped;
+        }, executor);
+
+        return map(batches, batchMapper, maxInFlight).thenApply(mappedBatches -> {
+            List<String> result = Lists.newArrayListWithCapacity(values.size());
+            for (List<String> mappedBatch : mappedBatches) {
+                result.addAll(mappedBatch);
+            }
+            return new StringListImpl(result);
+        });
+    }
+
+    private static <T, R> CompletableFuture<List<R>> map(List<T> input, Function<T, CompletableFuture<R>> mapper, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+
+        if (input.isEmpty()) {
+            return CompletableFuture.completedFuture(Lists.newArrayList());
+        }
+
+        Window<T, R> window = new Window<>(input, mapper);
+        for (int i = 0; i < Math.min(maxInFlight, input.size()); i++) {
+            window.startNext();
+        }
+        return window.result;
+    }
+
+    private static class Window<T, R> {
+
+        private final List<T> input;
+        private final List<R> output;
+        private final Function<T, CompletableFuture<R>> mapper;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final CompletableFuture<List<R>> result = new CompletableFuture<>();
+
+        Window(List<T> input, Function<T, CompletableFuture<R>> mapper) {
+            this.input = input;
+            this.output = Lists.newArrayList(Collections.nCopies(input.size(), null));
+            this.mapper = mapper;
+        }
+
+        /**
+         * Start operations until one does not complete right away. Operations that completed synchronously are handled
+         * in this loop rather than in a callback to avoid recursing once per value.
+         */
+        void startNext() {
+            while (!result.isDone()) {
+                int index = next.getAndIncrement();
+                if (index >= input.size()) {
+                    return;
+                }
+
+                CompletableFuture<R> future;
+                try {
+                    future = Objects.requireNonNull(mapper.apply(input.get(index)), "Mapper returned null instead of a future");
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+
+                if (future.isDone()) {
+                    complete(index, future.handle((value, e) -> e == null ? value : failed(e)).join());
+                } else {
+                    future.whenComplete((value, e) -> {
+                        if (e != null) {
+                            result.completeExceptionally(e);
+                        } else {
+                            complete(index, value);
+                            startNext();
+                        }
+                    });
+                    return;
+                }
+            }
+        }
+
+        private R failed(Throwable e) {
+            result.completeExceptionally(e);
+            return null;
+        }
+
+        private void complete(int index, R value) {
+            if (result.isDone()) {
+                return;
+            }
+
+            output.set(index, value);
+            if (completed.incrementAndGet() == output.size()) {
+                result.complete(output);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package net.robinfriedli.stringlist;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list view over a buffer written by {@link StringListCodec} that decodes each value when it is accessed.
+ */
+class BufferStringList extends AbstractList<String> implements RandomAccess {
+
+    private final ByteBuffer buffer;
+    private final int[] offsets;
+    // null if the buffer does not contain a dictionary section, else the dictionary index of each element
+    private final int[] indices;
+
+    BufferStringList(ByteBuffer buffer, int[] offsets, int[] indices) {
+        this.buffer = buffer;
+        this.offsets = offsets;
+        this.indices = indices;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        int offset = indices != null ? offsets[indices[index]] : offsets[index];
+        return StringListCodec.readValue(buffer, offset);
+    }
+
+    @Override
+    public int size() {
+        return indices != null ? indices.length : offsets.length;
+    }
+
+}
@@ -0,0 +1,80 @@
+package net.robinfriedli.stringlist;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Comparisons of encoded strings stored in buffers against encoded search values.
+ */
+final class ByteMatching {
+
+    private ByteMatching() {
+    }
+
+    /**
+     * @return true if the {@code length} bytes at {@code offset} in the buffer are equal to the provided bytes
+     */
+    static boolean equals(ByteBuffer buffer, int offset, int length, byte[] bytes) {
+        if (length != bytes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Compares the UTF-8 bytes at {@code offset} in the buffer to the provided UTF-8 bytes ignoring the case of ASCII
+     * letters.
+     *
+     * @return 1 if equal, 0 if not equal and -1 if the values differ in a non ASCII character, in which case the caller
+     * has to compare the decoded strings
+     */
+    static int equalsIgnoreCaseAscii(ByteBuffer buffer, int offset, int length, byte[] bytes) {
+        int common = Math.min(length, bytes.length);
+        for (int i = 0; i < common; i++) {
+            byte a = buffer.get(offset + i);
+            byte b = bytes[i];
+            if (a == b) {
+                // identical bytes keep both values at the same character boundary, even within multi-byte characters
+                continue;
+            }
+            if (a < 0 || b < 0) {
+                return -1;
+            }
+            if (toLowerAscii(a) != toLowerAscii(b)) {
+                return 0;
+            }
+        }
+
+        // the common prefix only differs in the case of ASCII letters, so the longer value has more characters
+        return length == bytes.length ? 1 : 0;
+    }
+
+    /**
+     * @return 1 if all bytes in the given range are ASCII letters, 0 if there is a byte that is not, -1 if a non ASCII
+     * character was encountered before the result could be determined
+     */
+    static int isAsciiLetters(ByteBuffer buffer, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(offset + i);
+            if (b < 0) {
+                return -1;
+            }
+            if (!((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z'))) {
+                return 0;
+            }
+        }
+
+        return 1;
+    }
+
+    private static byte toLowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+}
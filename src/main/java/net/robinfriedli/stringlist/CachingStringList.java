@@ -0,0 +1,95 @@
+package net.robinfriedli.stringlist;
+
+import com.google.common.collect.Lists;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * StringList that memoises the results of {@link #toString()}, {@link #toSeparatedString(String)},
+ * {@link #getWordPositions()} and {@link #filterWords()} until the list is modified. Every modification, whether made
+ * through the methods of this list, its iterators, its backing list returned by {@link #getValues()} or bulk
+ * operations like {@link #applyForEach(java.util.function.Function)}, increments a version counter of the backing list,
+ * which invalidates the memoised results the next time they are requested.
+ * <p>
+ * This pays off for lists that are rendered or queried repeatedly between modifications. Lists are copied into a
+ * backing list owned by this class, so unlike {@link StringList#backedBy(List)} modifications of the provided values
+ * are not reflected.
+ */
+public class CachingStringList extends StringListImpl {
+
+    private final ModificationTrackingList<String> values;
+
+    private long cachedVersion;
+    private String string;
+    private String separator;
+    private String separatedString;
+    private List<Integer> wordPositions;
+    private List<String> words;
+
+    public CachingStringList() {
+        this(new ModificationTrackingList<>());
+    }
+
+    public CachingStringList(Iterable<String> values) {
+        this(new ModificationTrackingList<>(values));
+    }
+
+    private CachingStringList(ModificationTrackingList<String> values) {
+        super(values);
+        this.values = values;
+    }
+
+    @Override
+    public String toString() {
+        invalidateIfModified();
+        if (string == null) {
+            string = super.toString();
+        }
+        return string;
+    }
+
+    /**
+     * Memoises the result for the most recently used separator.
+     */
+    @Override
+    public String toSeparatedString(String separator) {
+        invalidateIfModified();
+        if (separatedString == null || !Objects.equals(separator, this.separator)) {
+            separatedString = super.toSeparatedString(separator);
+            this.separator = separator;
+        }
+        return separatedString;
+    }
+
+    @Override
+    public StringList filterWords() {
+        invalidateIfModified();
+        if (words == null) {
+            words = super.filterWords().getValues();
+        }
+        return StringList.create(words);
+    }
+
+    @Override
+    public List<Integer> getWordPositions() {
+        invalidateIfModified();
+        if (wordPositions == null) {
+            wordPositions = super.getWordPositions();
+        }
+        return Lists.newArrayList(wordPositions);
+    }
+
+    private void invalidateIfModified() {
+        long version = values.getVersion();
+        if (version != cachedVersion) {
+            string = null;
+            separator = null;
+            separatedString = null;
+            wordPositions = null;
+            words = null;
+            cachedVersion = version;
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package net.robinfriedli.stringlist;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Provides the executors used by asynchronous operations. Replaced by a version using virtual threads in the Java 21
+ * section of the multi-release jar.
+ */
+final class Concurrency {
+
+    private Concurrency() {
+    }
+
+    /**
+     * @return the executor asynchronous operations run on unless an executor is provided explicitly
+     */
+    static Executor defaultExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * @return the number of tasks asynchronous operations keep in flight at the same time unless a bound is provided
+     * explicitly
+     */
+    static int defaultMaxInFlight() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+}
@@ -0,0 +1,175 @@
+package net.robinfriedli.stringlist;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * List backed by an array with a gap at the position of the last insertion or removal. Inserting or removing an
+ * element moves the gap to the affected index, which only shifts the elements between the old and the new position of
+ * the gap, so a sequence of edits close to each other runs in amortised constant time regardless of the size of the
+ * list. This includes edits made through a {@link java.util.ListIterator}.
+ */
+class GapBufferList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] elements;
+    private int gapStart;
+    private int gapEnd;
+
+    GapBufferList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    GapBufferList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        elements = new Object[initialCapacity];
+        gapEnd = initialCapacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) {
+        checkIndex(index);
+        return (E) elements[physicalIndex(index)];
+    }
+
+    @Override
+    public int size() {
+        return elements.length - (gapEnd - gapStart);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E set(int index, E element) {
+        checkIndex(index);
+        int physicalIndex = physicalIndex(index);
+        E previous = (E) elements[physicalIndex];
+        elements[physicalIndex] = element;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        checkIndexForAdd(index);
+        ensureGap(1);
+        moveGap(index);
+        elements[gapStart++] = element;
+        ++modCount;
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        checkIndexForAdd(index);
+        Object[] added = c.toArray();
+        if (added.length == 0) {
+            return false;
+        }
+
+        ensureGap(added.length);
+        moveGap(index);
+        System.arraycopy(added, 0, elements, gapStart, added.length);
+        gapStart += added.length;
+        ++modCount;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return addAll(size(), c);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E remove(int index) {
+        checkIndex(index);
+        moveGap(index);
+        E previous = (E) elements[gapEnd];
+        elements[gapEnd++] = null;
+        ++modCount;
+        return previous;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+
+        moveGap(fromIndex);
+        int removed = toIndex - fromIndex;
+        Arrays.fill(elements, gapEnd, gapEnd + removed, null);
+        gapEnd += removed;
+        ++modCount;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, null);
+        gapStart = 0;
+        gapEnd = elements.length;
+        ++modCount;
+    }
+
+    private int physicalIndex(int index) {
+        return index < gapStart ? index : index + (gapEnd - gapStart);
+    }
+
+    /**
+     * Move the gap so that it starts at the given logical index.
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(elements, index, elements, gapEnd - count, count);
+            // clear the slots that are now part of the gap so they do not retain removed elements
+            Arrays.fill(elements, index, Math.min(gapStart, gapEnd - count), null);
+            gapStart = index;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(elements, gapEnd, elements, gapStart, count);
+            Arrays.fill(elements, Math.max(gapEnd, index), gapEnd + count, null);
+            gapStart = index;
+            gapEnd += count;
+        }
+    }
+
+    private void ensureGap(int required) {
+        int gapLength = gapEnd - gapStart;
+        if (gapLength >= required) {
+            return;
+        }
+
+        int size = size();
+        long minCapacity = (long) size + required;
+        if (minCapacity > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(minCapacity, elements.length + (elements.length >> 1) + DEFAULT_CAPACITY));
+
+        Object[] newElements = new Object[newCapacity];
+        int suffixLength = elements.length - gapEnd;
+        System.arraycopy(elements, 0, newElements, 0, gapStart);
+        System.arraycopy(elements, gapEnd, newElements, newCapacity - suffixLength, suffixLength);
+        elements = newElements;
+        gapEnd = newCapacity - suffixLength;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    private void checkIndexForAdd(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package net.robinfriedli.stringlist;
+
+/**
+ * StringList backed by a gap buffer for edit-heavy workloads. Like an {@link java.util.ArrayList} it offers constant
+ * time random access, but inserting or removing a value only shifts the values between the current edit position and
+ * the previous one instead of the whole tail of the list. Repeated edits around the same position, for instance
+ * through {@link #listIterator(int)}, therefore run in amortised constant time.
+ */
+public class GapBufferStringList extends StringListImpl {
+
+    public GapBufferStringList() {
+        super(new GapBufferList<>());
+    }
+
+    public GapBufferStringList(int initialCapacity) {
+        super(new GapBufferList<>(initialCapacity));
+    }
+
+    public GapBufferStringList(Iterable<String> values) {
+        this();
+        for (String value : values) {
+            add(value);
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+package net.robinfriedli.stringlist;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving summary tracking the approximately most frequent values using a fixed number of counters. When a value
+ * that is not tracked arrives while all counters are in use, the counter with the lowest count is reassigned to it and
+ * incremented, so counts are overestimated by at most the count the counter had before. Any value occurring more than
+ * n / capacity times out of n values is guaranteed to be tracked.
+ * <p>
+ * Counters are kept in a min-heap ordered by count so that finding and replacing the smallest counter and incrementing
+ * a counter take logarithmic time.
+ */
+class HeavyHitters {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+
+    HeavyHitters(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        counters = Maps.newHashMapWithExpectedSize(capacity);
+        heap = new Counter[capacity];
+    }
+
+    void add(String value) {
+        Counter counter = counters.get(value);
+        if (counter != null) {
+            counter.count++;
+            siftDown(counter.heapIndex);
+        } else if (size < capacity) {
+            counter = new Counter(value, 1);
+            counters.put(value, counter);
+            heap[size] = counter;
+            counter.heapIndex = size;
+            siftUp(size++);
+        } else {
+            counter = heap[0];
+            counters.remove(counter.value);
+            counter.value = value;
+            counter.count++;
+            counters.put(value, counter);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Merge the other summary into this one. Values tracked by only one of both summaries are assumed to have the
+     * minimum count of the other summary if that summary is full, which keeps the counts overestimates.
+     */
+    void merge(HeavyHitters other) {
+        long ownMin = size == capacity ? heap[0].count : 0;
+        long otherMin = other.size == other.capacity ? other.heap[0].count : 0;
+
+        List<Counter> merged = Lists.newArrayListWithCapacity(size + other.size);
+        for (int i = 0; i < size; i++) {
+            Counter counter = heap[i];
+            Counter otherCounter = other.counters.get(counter.value);
+            if (otherCounter != null) {
+                merged.add(new Counter(counter.value, counter.count + otherCounter.count));
+            } else {
+                merged.add(new Counter(counter.value, counter.count + otherMin));
+            }
+        }
+        for (int i = 0; i < other.size; i++) {
+            Counter otherCounter = other.heap[i];
+            if (!counters.containsKey(otherCounter.value)) {
+                merged.add(new Counter(otherCounter.value, otherCounter.count + ownMin));
+            }
+        }
+
+        merged.sort(Comparator.comparingLong((Counter counter) -> counter.count).reversed());
+        counters.clear();
+        size = 0;
+        for (Counter counter : merged.subList(0, Math.min(capacity, merged.size()))) {
+            counters.put(counter.value, counter);
+            heap[size] = counter;
+            counter.heapIndex = size;
+            siftUp(size++);
+        }
+    }
+
+    /**
+     * @return the at most k values with the highest estimated counts, ordered by descending count
+     */
+    List<Map.Entry<String, Long>> top(int k) {
+        List<Counter> sorted = Lists.newArrayList();
+        for (int i = 0; i < size; i++) {
+            sorted.add(heap[i]);
+        }
+        sorted.sort(Comparator.comparingLong((Counter counter) -> counter.count).reversed());
+
+        List<Map.Entry<String, Long>> top = Lists.newArrayListWithCapacity(Math.min(k, sorted.size()));
+        for (Counter counter : sorted.subList(0, Math.min(k, sorted.size()))) {
+            top.add(Maps.immutableEntry(counter.value, counter.count));
+        }
+        return top;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    private void siftUp(int index) {
+        Counter counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].count < heap[child].count) {
+                child = right;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter counter, int index) {
+        heap[index] = counter;
+        counter.heapIndex = index;
+    }
+
+    private static class Counter {
+
+        private String value;
+        private long count;
+        private int heapIndex;
+
+        Counter(String value, long count) {
+            this.value = value;
+            this.count = count;
+        }
+
+    }
+
+}
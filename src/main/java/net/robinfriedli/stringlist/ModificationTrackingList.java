@@ -0,0 +1,116 @@
+package net.robinfriedli.stringlist;
+
+import com.google.common.collect.Lists;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * Array list wrapper that increments a version for every modification, including {@link #set(int, Object)} which does
+ * not count as a structural modification for {@link AbstractList#modCount}. Since iterators and sub lists of
+ * {@link AbstractList} are implemented using the methods of the list itself, modifications made through them are
+ * tracked as well.
+ */
+class ModificationTrackingList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final List<E> delegate;
+    private long version;
+
+    ModificationTrackingList() {
+        delegate = Lists.newArrayList();
+    }
+
+    ModificationTrackingList(Iterable<? extends E> values) {
+        delegate = Lists.newArrayList(values);
+    }
+
+    /**
+     * @return a number that changes whenever this list is modified
+     */
+    long getVersion() {
+        return version;
+    }
+
+    @Override
+    public E get(int index) {
+        return delegate.get(index);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E previous = delegate.set(index, element);
+        ++version;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        delegate.add(index, element);
+        ++version;
+        ++modCount;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return addAll(size(), c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        boolean modified = delegate.addAll(index, c);
+        if (modified) {
+            ++version;
+            ++modCount;
+        }
+        return modified;
+    }
+
+    @Override
+    public E remove(int index) {
+        E previous = delegate.remove(index);
+        ++version;
+        ++modCount;
+        return previous;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        delegate.subList(fromIndex, toIndex).clear();
+        ++version;
+        ++modCount;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        ++version;
+        ++modCount;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        boolean modified = delegate.removeIf(filter);
+        if (modified) {
+            ++version;
+            ++modCount;
+        }
+        return modified;
+    }
+
+    @Override
+    public void sort(Comparator<? super E> c) {
+        delegate.sort(c);
+        ++version;
+        ++modCount;
+    }
+
+}
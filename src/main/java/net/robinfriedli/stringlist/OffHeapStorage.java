@@ -0,0 +1,435 @@
+package net.robinfriedli.stringlist;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * List storing the UTF-8 bytes of its values in direct buffers. Values are appended to fixed size segments and
+ * referenced by an entry table, also kept in a direct buffer, holding the segment, offset and length of each value.
+ * Removing or replacing a value leaves its bytes in the segment until the amount of unused bytes exceeds the amount of
+ * used bytes, at which point the segments are rewritten.
+ */
+class OffHeapStorage extends AbstractList<String> implements RandomAccess {
+
+    private static final int ENTRY_BYTES = 12;
+    private static final int NULL_LENGTH = -1;
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            // only available on Java 9 or newer
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+        } catch (Exception ignored) {
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final int segmentSize;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private ByteBuffer entries;
+    private int size;
+    private long usedBytes;
+    private long unusedBytes;
+    private boolean closed;
+
+    OffHeapStorage(int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+        entries = allocate(16 * ENTRY_BYTES);
+    }
+
+    @Override
+    public String get(int index) {
+        checkIndex(index);
+        int length = length(index);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        ByteBuffer segment = segments.get(segment(index)).duplicate();
+        segment.position(offset(index));
+        segment.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        checkOpen();
+        return size;
+    }
+
+    @Override
+    public String set(int index, String element) {
+        byte[] bytes = encodeElement(element);
+        String previous = get(index);
+        release(index);
+        write(index, bytes);
+        compactIfWasteful();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, String element) {
+        checkOpen();
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        byte[] bytes = encodeElement(element);
+        ensureEntryCapacity(size + 1);
+        moveEntries(index, index + 1, size - index);
+        ++size;
+        write(index, bytes);
+        ++modCount;
+    }
+
+    @Override
+    public String remove(int index) {
+        String previous = get(index);
+        release(index);
+        moveEntries(index + 1, index, size - index - 1);
+        --size;
+        ++modCount;
+        compactIfWasteful();
+        return previous;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        checkOpen();
+        for (int i = fromIndex; i < toIndex; i++) {
+            release(i);
+        }
+        moveEntries(toIndex, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        ++modCount;
+        compactIfWasteful();
+    }
+
+    @Override
+    public void clear() {
+        checkOpen();
+        for (ByteBuffer segment : segments) {
+            free(segment);
+        }
+        segments.clear();
+        size = 0;
+        usedBytes = 0;
+        unusedBytes = 0;
+        ++modCount;
+    }
+
+    /**
+     * @return the amount of bytes used by the values of this list, not including bytes of removed or replaced values
+     * that have not been compacted yet
+     */
+    long usedBytes() {
+        return usedBytes;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Release all direct buffers held by this storage. Any subsequent operation throws an
+     * {@link IllegalStateException}.
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+
+        for (ByteBuffer segment : segments) {
+            free(segment);
+        }
+        free(entries);
+        segments.clear();
+        entries = null;
+        size = 0;
+        closed = true;
+    }
+
+    /**
+     * @return true if the value at the given index is equal to the given string, whose UTF-8 encoding is provided as
+     * well so it only has to be computed once when scanning the list
+     */
+    boolean matches(int index, String s, byte[] bytes, boolean ignoreCase) {
+        int length = length(index);
+        if (length == NULL_LENGTH) {
+            return false;
+        }
+
+        ByteBuffer segment = segments.get(segment(index));
+        int offset = offset(index);
+        if (!ignoreCase) {
+            return ByteMatching.equals(segment, offset, length, bytes);
+        }
+
+        int result = ByteMatching.equalsIgnoreCaseAscii(segment, offset, length, bytes);
+        return result < 0 ? s.equalsIgnoreCase(get(index)) : result == 1;
+    }
+
+    boolean isNull(int index) {
+        return length(index) == NULL_LENGTH;
+    }
+
+    /**
+     * @return true if the value at the given index is not null and all of its characters are letters
+     */
+    boolean isWord(int index) {
+        int length = length(index);
+        if (length == NULL_LENGTH) {
+            return false;
+        }
+
+        int result = ByteMatching.isAsciiLetters(segments.get(segment(index)), offset(index), length);
+        if (result >= 0) {
+            return result == 1;
+        }
+
+        String value = get(index);
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isLetter(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the amount of bytes the value at the given index occupies when written by {@link #copyTo(int, byte[], int)}
+     */
+    int encodedLength(int index) {
+        int length = length(index);
+        return length == NULL_LENGTH ? 4 : length;
+    }
+
+    /**
+     * Copy the UTF-8 bytes of the value at the given index to the target array, writing "null" for null values like
+     * {@link StringBuilder#append(String)} does.
+     *
+     * @return the position in the target array after the copied bytes
+     */
+    int copyTo(int index, byte[] target, int position) {
+        int length = length(index);
+        if (length == NULL_LENGTH) {
+            target[position++] = 'n';
+            target[position++] = 'u';
+            target[position++] = 'l';
+            target[position++] = 'l';
+            return position;
+        }
+
+        ByteBuffer segment = segments.get(segment(index)).duplicate();
+        segment.position(offset(index));
+        segment.get(target, position, length);
+        return position + length;
+    }
+
+    /**
+     * @return the UTF-8 bytes of the value or null if the value contains an unpaired surrogate, which UTF-8 cannot
+     * represent and {@link String#getBytes} would silently replace
+     */
+    static byte[] encode(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                return null;
+            }
+        }
+
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the bytes to store for the element, null for null elements
+     * @throws IllegalArgumentException if the element contains an unpaired surrogate
+     */
+    private static byte[] encodeElement(String element) {
+        if (element == null) {
+            return null;
+        }
+
+        byte[] bytes = encode(element);
+        if (bytes == null) {
+            throw new IllegalArgumentException("Cannot store value containing an unpaired surrogate in UTF-8");
+        }
+        return bytes;
+    }
+
+    private void write(int index, byte[] bytes) {
+        if (bytes == null) {
+            putEntry(index, 0, 0, NULL_LENGTH);
+        } else {
+            append(index, ByteBuffer.wrap(bytes), bytes.length);
+        }
+    }
+
+    private void append(int index, ByteBuffer value, int length) {
+        ByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.remaining() < length) {
+            segment = allocate(Math.max(segmentSize, length));
+            segments.add(segment);
+        }
+
+        putEntry(index, segments.size() - 1, segment.position(), length);
+        segment.put(value);
+        usedBytes += length;
+    }
+
+    private void release(int index) {
+        int length = length(index);
+        if (length != NULL_LENGTH) {
+            usedBytes -= length;
+            unusedBytes += length;
+        }
+    }
+
+    private void compactIfWasteful() {
+        if (unusedBytes <= segmentSize || unusedBytes <= usedBytes) {
+            return;
+        }
+
+        List<ByteBuffer> oldSegments = new ArrayList<>(segments);
+        segments.clear();
+        usedBytes = 0;
+        unusedBytes = 0;
+        for (int i = 0; i < size; i++) {
+            int length = length(i);
+            if (length != NULL_LENGTH) {
+                ByteBuffer value = oldSegments.get(segment(i)).duplicate();
+                value.position(offset(i));
+                value.limit(value.position() + length);
+                append(i, value, length);
+            }
+        }
+
+        for (ByteBuffer oldSegment : oldSegments) {
+            free(oldSegment);
+        }
+    }
+
+    private void ensureEntryCapacity(int capacity) {
+        if ((long) capacity * ENTRY_BYTES <= entries.capacity()) {
+            return;
+        }
+
+        long newCapacity = Math.max((long) capacity * ENTRY_BYTES, (long) entries.capacity() * 2);
+        if (newCapacity > Integer.MAX_VALUE) {
+            newCapacity = (long) capacity * ENTRY_BYTES;
+            if (newCapacity > Integer.MAX_VALUE) {
+                throw new OutOfMemoryError("Too many elements for OffHeapStringList: " + capacity);
+            }
+        }
+
+        ByteBuffer newEntries = allocate((int) newCapacity);
+        ByteBuffer oldEntries = entries.duplicate();
+        oldEntries.clear();
+        oldEntries.limit(size * ENTRY_BYTES);
+        newEntries.put(oldEntries);
+        newEntries.clear();
+        free(entries);
+        entries = newEntries;
+    }
+
+    private void moveEntries(int from, int to, int count) {
+        if (count <= 0 || from == to) {
+            return;
+        }
+
+        if (from > to) {
+            for (int i = 0; i < count; i++) {
+                copyEntry(from + i, to + i);
+            }
+        } else {
+            for (int i = count - 1; i >= 0; i--) {
+                copyEntry(from + i, to + i);
+            }
+        }
+    }
+
+    private void copyEntry(int from, int to) {
+        putEntry(to, segment(from), offset(from), length(from));
+    }
+
+    private void putEntry(int index, int segment, int offset, int length) {
+        int position = index * ENTRY_BYTES;
+        entries.putInt(position, segment);
+        entries.putInt(position + 4, offset);
+        entries.putInt(position + 8, length);
+    }
+
+    private int segment(int index) {
+        return entries.getInt(index * ENTRY_BYTES);
+    }
+
+    private int offset(int index) {
+        return entries.getInt(index * ENTRY_BYTES + 4);
+    }
+
+    private int length(int index) {
+        return entries.getInt(index * ENTRY_BYTES + 8);
+    }
+
+    private void checkIndex(int index) {
+        checkOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("OffHeapStringList has been closed");
+        }
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Free the memory of a direct buffer right away instead of waiting for it to be garbage collected. If the JVM does
+     * not offer a way to do this, the memory is freed once the buffer is collected.
+     */
+    private static void free(ByteBuffer buffer) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else {
+                // Java 8
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (Exception ignored) {
+            // left to the garbage collector
+        }
+    }
+
+}
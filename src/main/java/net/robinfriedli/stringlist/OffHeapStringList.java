@@ -0,0 +1,224 @@
+package net.robinfriedli.stringlist;
+
+import com.google.common.collect.Lists;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * StringList that keeps the UTF-8 bytes of its values, as well as the table referencing them, in direct buffers outside
+ * of the java heap. This keeps large, long-lived lists from inflating the old generation. Values are only decoded into
+ * strings when accessed through the {@link List} methods, the query methods of the {@link StringList} interface
+ * overridden here operate on the encoded bytes. Values containing unpaired surrogates, which UTF-8 cannot represent, are
+ * rejected with an {@link IllegalArgumentException}.
+ * <p>
+ * The off-heap memory is released by {@link #close()}, after which any further operation throws an
+ * {@link IllegalStateException}. Like {@link java.util.ArrayList} this class is not thread safe, in particular closing
+ * or modifying the list while another thread is reading it may access memory that has already been released.
+ */
+public class OffHeapStringList extends StringListImpl implements AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 24;
+
+    private final OffHeapStorage storage;
+
+    public OffHeapStringList() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param segmentSize the size of the direct buffers values are written to, values larger than this are written to
+     *                    a buffer of their own
+     */
+    public OffHeapStringList(int segmentSize) {
+        this(new OffHeapStorage(segmentSize));
+    }
+
+    public OffHeapStringList(Iterable<String> values) {
+        this(DEFAULT_SEGMENT_SIZE);
+        for (String value : values) {
+            add(value);
+        }
+    }
+
+    private OffHeapStringList(OffHeapStorage storage) {
+        super(storage);
+        this.storage = storage;
+    }
+
+    /**
+     * @return the amount of off-heap bytes occupied by the values of this list
+     */
+    public long getUsedBytes() {
+        return storage.usedBytes();
+    }
+
+    public boolean isClosed() {
+        return storage.isClosed();
+    }
+
+    /**
+     * Release the off-heap memory held by this list. Calling this method more than once has no effect.
+     */
+    @Override
+    public void close() {
+        storage.close();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object o, boolean ignoreCase) {
+        return indexOf(o, ignoreCase) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return indexOf(o, false);
+    }
+
+    @Override
+    public int indexOf(Object o, boolean ignoreCase) {
+        if (o == null) {
+            for (int i = 0; i < size(); i++) {
+                if (storage.isNull(i)) {
+                    return i;
+                }
+            }
+        } else if (o instanceof String) {
+            String s = (String) o;
+            byte[] bytes = OffHeapStorage.encode(s);
+            if (bytes == null) {
+                // values with unpaired surrogates cannot be stored
+                return -1;
+            }
+            for (int i = 0; i < size(); i++) {
+                if (storage.matches(i, s, bytes, ignoreCase)) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return lastIndexOf(o, false);
+    }
+
+    @Override
+    public int lastIndexOf(Object o, boolean ignoreCase) {
+        if (o == null) {
+            for (int i = size() - 1; i >= 0; i--) {
+                if (storage.isNull(i)) {
+                    return i;
+                }
+            }
+        } else if (o instanceof String) {
+            String s = (String) o;
+            byte[] bytes = OffHeapStorage.encode(s);
+            if (bytes == null) {
+                // values with unpaired surrogates cannot be stored
+                return -1;
+            }
+            for (int i = size() - 1; i >= 0; i--) {
+                if (storage.matches(i, s, bytes, ignoreCase)) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public List<Integer> findPositionsOf(String s, boolean ignoreCase) {
+        List<Integer> positions = Lists.newArrayList();
+        byte[] bytes = OffHeapStorage.encode(s);
+        if (bytes == null) {
+            return positions;
+        }
+
+        for (int i = 0; i < size(); i++) {
+            if (storage.matches(i, s, bytes, ignoreCase)) {
+                positions.add(i);
+            }
+        }
+
+        return positions;
+    }
+
+    @Override
+    public String toString() {
+        return toSeparatedString("");
+    }
+
+    @Override
+    public String toSeparatedString(String separator) {
+        // like the base implementation, a null separator is rendered as "null"
+        byte[] separatorBytes = OffHeapStorage.encode(String.valueOf(separator));
+        if (separatorBytes == null) {
+            // the separator cannot be joined with the encoded values without losing its unpaired surrogates
+            return super.toSeparatedString(separator);
+        }
+        int size = size();
+
+        long length = 0;
+        for (int i = 0; i < size; i++) {
+            length += storage.encodedLength(i);
+        }
+        if (size > 1) {
+            length += (long) separatorBytes.length * (size - 1);
+        }
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("Joined values of OffHeapStringList too large: " + length + " bytes");
+        }
+
+        byte[] bytes = new byte[(int) length];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            position = storage.copyTo(i, bytes, position);
+
+            if (i < size - 1) {
+                System.arraycopy(separatorBytes, 0, bytes, position, separatorBytes.length);
+                position += separatorBytes.length;
+            }
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Like {@link StringList#filterWords()} but checks the encoded bytes, only words are decoded. The returned list is a
+     * regular heap based list, so it does not need to be closed. Null values are not considered words.
+     */
+    @Override
+    public StringList filterWords() {
+        StringList stringList = StringList.create();
+        for (int i = 0; i < size(); i++) {
+            if (storage.isWord(i)) {
+                stringList.add(get(i));
+            }
+        }
+
+        return stringList;
+    }
+
+    @Override
+    public List<Integer> getWordPositions() {
+        List<Integer> positions = Lists.newArrayList();
+
+        for (int i = 0; i < size(); i++) {
+            if (storage.isWord(i)) {
+                positions.add(i);
+            }
+        }
+
+        return positions;
+    }
+
+}
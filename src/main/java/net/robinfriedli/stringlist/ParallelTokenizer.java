@@ -0,0 +1,222 @@
+package net.robinfriedli.stringlist;
+
+import com.google.common.collect.Lists;
+
+import java.text.BreakIterator;
+import java.text.StringCharacterIterator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Splits large strings into chunks at positions where tokenising each chunk on its own yields the same tokens as
+ * tokenising the whole string, tokenises the chunks in parallel on the common {@link ForkJoinPool} and joins the
+ * results in order. Strings too short to be worth splitting are tokenised on the calling thread.
+ */
+final class ParallelTokenizer {
+
+    static final int MIN_CHUNK_LENGTH = 1 << 16;
+
+    // maximum number of characters a match found from the ideal chunk end is moved back to find where it starts
+    private static final int MAX_WALK_BACK = 16;
+
+    private ParallelTokenizer() {
+    }
+
+    /**
+     * Tokenise the text using break iterators obtained from the supplier, one per chunk since break iterators are not
+     * thread safe. Chunks end at a boundary the break iterator reports for the whole text, preferably at the first
+     * whitespace following the ideal chunk end.
+     */
+    static StringList tokenize(Supplier<BreakIterator> breakIteratorSupplier, String text) {
+        int chunkCount = chunkCount(text);
+        if (chunkCount <= 1) {
+            return StringList.create(breakIteratorSupplier.get(), text);
+        }
+
+        BreakIterator probe = breakIteratorSupplier.get();
+        probe.setText(text);
+        int[] cuts = new int[chunkCount + 1];
+        int cutCount = 1;
+        int chunkLength = text.length() / chunkCount;
+        for (int i = 1; i < chunkCount; i++) {
+            int candidate = nextWhitespace(text, i * chunkLength, chunkLength / 2);
+            int boundary = probe.following(candidate - 1);
+            if (boundary != BreakIterator.DONE && boundary > cuts[cutCount - 1] && boundary < text.length()) {
+                cuts[cutCount++] = boundary;
+            }
+        }
+        cuts[cutCount++] = text.length();
+        int[] boundaries = Arrays.copyOf(cuts, cutCount);
+
+        List<List<String>> chunks = IntStream.range(0, boundaries.length - 1)
+            .parallel()
+            .mapToObj(i -> tokenizeRange(breakIteratorSupplier.get(), text, boundaries[i], boundaries[i + 1]))
+            .collect(Collectors.toList());
+
+        return new StringListImpl(join(chunks));
+    }
+
+    /**
+     * Split the text around matches of the regex, producing the same result as {@link String#split(String)}. Chunks
+     * are separated by a match of the regex, found by searching from the ideal chunk end and moving back to where a
+     * sequential scan would have started that match. Matches whose start is not found within a few characters, like
+     * those within long runs of separators, are skipped in favour of the next chunk end. Each chunk is matched in the
+     * context of the whole text, so lookarounds see past the chunk bounds, and a chunk is only accepted if its scan
+     * arrives at exactly the match separating it from the next chunk. Otherwise, or if the regex can match the empty
+     * string, the text is split sequentially.
+     */
+    static StringList split(String text, String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        int chunkCount = chunkCount(text);
+        if (chunkCount <= 1 || pattern.matcher("").matches()) {
+            return StringList.of(text.split(regex));
+        }
+
+        Matcher matcher = pattern.matcher(text);
+        // start of each chunk followed by the start and end of the match ending it
+        int[] ranges = new int[chunkCount * 3];
+        int rangeCount = 0;
+        int chunkStart = 0;
+        int chunkLength = text.length() / chunkCount;
+        for (int i = 1; i < chunkCount; i++) {
+            int candidate = Math.max(i * chunkLength, chunkStart);
+            if (!matcher.find(candidate)) {
+                break;
+            }
+
+            // each step rescans the match, so long runs of matches are not walked back completely but skipped
+            int matchStart = matcher.start();
+            int steps = 0;
+            while (matchStart > chunkStart && matcher.find(matchStart - 1) && matcher.start() == matchStart - 1) {
+                if (++steps > MAX_WALK_BACK) {
+                    break;
+                }
+                matchStart--;
+            }
+            if (steps > MAX_WALK_BACK) {
+                continue;
+            }
+            matcher.find(matchStart);
+
+            if (matcher.start() == matcher.end()) {
+                // zero width matches depend on where the previous match ended, which is only known sequentially
+                return StringList.of(text.split(regex));
+            }
+
+            if (matcher.start() > chunkStart && matcher.end() < text.length()) {
+                ranges[rangeCount++] = chunkStart;
+                ranges[rangeCount++] = matcher.start();
+                ranges[rangeCount++] = matcher.end();
+                chunkStart = matcher.end();
+            }
+        }
+        ranges[rangeCount++] = chunkStart;
+        ranges[rangeCount++] = text.length();
+        ranges[rangeCount++] = text.length();
+
+        int chunks = rangeCount / 3;
+        List<List<String>> tokens = IntStream.range(0, chunks)
+            .parallel()
+            .mapToObj(i -> splitRange(pattern, text, ranges[i * 3], ranges[i * 3 + 1], ranges[i * 3 + 2]))
+            .collect(Collectors.toList());
+        if (tokens.contains(null)) {
+            return StringList.of(text.split(regex));
+        }
+
+        List<String> values = join(tokens);
+        // like String#split(String), drop trailing empty strings
+        int size = values.size();
+        while (size > 0 && values.get(size - 1).isEmpty()) {
+            size--;
+        }
+        values.subList(size, values.size()).clear();
+
+        return new StringListImpl(values);
+    }
+
+    private static int chunkCount(String text) {
+        int maxChunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+        return Math.max(1, Math.min(maxChunks, text.length() / MIN_CHUNK_LENGTH));
+    }
+
+    private static int nextWhitespace(String text, int from, int maxDistance) {
+        int limit = Math.min(text.length(), from + maxDistance);
+        for (int i = from; i < limit; i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return from;
+    }
+
+    private static List<String> tokenizeRange(BreakIterator breakIterator, String text, int begin, int end) {
+        List<String> tokens = Lists.newArrayList();
+
+        breakIterator.setText(new StringCharacterIterator(text, begin, end, begin));
+        int start = breakIterator.first();
+
+        for (int next = breakIterator.next(); next != BreakIterator.DONE; start = next, next = breakIterator.next()) {
+            tokens.add(text.substring(start, next));
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Split the text starting at begin around the matches of the pattern the same way {@link Pattern#split(CharSequence)}
+     * would, up to the match from cutStart to cutEnd that ends the chunk.
+     *
+     * @return the tokens of the chunk or null if a sequential scan would not have found the match ending the chunk
+     */
+    private static List<String> splitRange(Pattern pattern, String text, int begin, int cutStart, int cutEnd) {
+        List<String> tokens = Lists.newArrayList();
+        Matcher matcher = pattern.matcher(text)
+            .region(begin, text.length())
+            .useTransparentBounds(true)
+            .useAnchoringBounds(false);
+
+        int index = begin;
+        boolean reachedCut = cutStart == text.length();
+        while (matcher.find()) {
+            if (matcher.end() > cutStart) {
+                if (matcher.start() != cutStart || matcher.end() != cutEnd) {
+                    return null;
+                }
+                reachedCut = true;
+                break;
+            }
+
+            // like Pattern#split(CharSequence), a zero width match at the beginning of the text does not produce a token
+            if (matcher.end() > 0) {
+                tokens.add(text.substring(index, matcher.start()));
+                index = matcher.end();
+            }
+        }
+
+        if (!reachedCut) {
+            return null;
+        }
+        tokens.add(text.substring(index, cutStart));
+        return tokens;
+    }
+
+    private static List<String> join(List<List<String>> chunks) {
+        int size = 0;
+        for (List<String> chunk : chunks) {
+            size += chunk.size();
+        }
+
+        List<String> values = Lists.newArrayListWithCapacity(size);
+        for (List<String> chunk : chunks) {
+            values.addAll(chunk);
+        }
+        return values;
+    }
+
+}
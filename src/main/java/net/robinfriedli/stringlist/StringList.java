@@ -4,7 +4,10 @@ import com.google.common.collect.Lists;
 
 import javax.annotation.Nullable;
 import java.text.BreakIterator;
+import java.text.Collator;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.*;
 import java.util.stream.Collector;
 
@@ -86,6 +89,87 @@ public interface StringList extends List<String> {
         return stringList;
     }
 
+    /**
+     * Like {@link #createWithRegex(String, String)} but splits large strings into chunks separated by a match of the
+     * regex and splits the chunks in parallel on the common {@link java.util.concurrent.ForkJoinPool}. Regular
+     * expressions that can match the empty string are applied sequentially.
+     *
+     * @param string the string to split
+     * @param regex  the regex expression
+     * @return the created StringList
+     */
+    static StringList createWithRegexParallel(String string, String regex) {
+        return ParallelTokenizer.split(string, regex);
+    }
+
+    /**
+     * Like {@link #splitSentences(String)} but tokenises large strings in parallel, see
+     * {@link #createParallel(Supplier, String)}.
+     *
+     * @param input the input to split into sentences.
+     * @return the created StringList
+     */
+    static StringList splitSentencesParallel(String input) {
+        return createParallel(BreakIterator::getSentenceInstance, input);
+    }
+
+    /**
+     * Like {@link #splitWords(String)} but tokenises large strings in parallel, see
+     * {@link #createParallel(Supplier, String)}.
+     *
+     * @param input the input to split into words.
+     * @return the created StringList
+     */
+    static StringList splitWordsParallel(String input) {
+        return createParallel(BreakIterator::getWordInstance, input);
+    }
+
+    /**
+     * Like {@link #create(BreakIterator, String)} but splits large strings into chunks and tokenises them in parallel
+     * on the common {@link java.util.concurrent.ForkJoinPool}. Chunks end at a boundary that the break iterator reports
+     * for the whole text, found by probing at the first whitespace after the ideal chunk end.
+     *
+     * @param breakIteratorSupplier supplies a new break iterator for each chunk since break iterators are not thread
+     *                              safe
+     * @param text                  the input string to split
+     * @return the created StringList
+     */
+    static StringList createParallel(Supplier<BreakIterator> breakIteratorSupplier, String text) {
+        return ParallelTokenizer.tokenize(breakIteratorSupplier, text);
+    }
+
+    /**
+     * Run {@link #createWithRegexParallel(String, String)} asynchronously on the common fork join pool, or on a
+     * virtual thread when running on Java 21 or newer.
+     */
+    static CompletableFuture<StringList> createWithRegexAsync(String string, String regex) {
+        return CompletableFuture.supplyAsync(() -> createWithRegexParallel(string, regex), Concurrency.defaultExecutor());
+    }
+
+    /**
+     * Run {@link #splitSentencesParallel(String)} asynchronously on the common fork join pool, or on a virtual thread
+     * when running on Java 21 or newer.
+     */
+    static CompletableFuture<StringList> splitSentencesAsync(String input) {
+        return CompletableFuture.supplyAsync(() -> splitSentencesParallel(input), Concurrency.defaultExecutor());
+    }
+
+    /**
+     * Run {@link #splitWordsParallel(String)} asynchronously on the common fork join pool, or on a virtual thread
+     * when running on Java 21 or newer.
+     */
+    static CompletableFuture<StringList> splitWordsAsync(String input) {
+        return CompletableFuture.supplyAsync(() -> splitWordsParallel(input), Concurrency.defaultExecutor());
+    }
+
+    /**
+     * Run {@link #createParallel(Supplier, String)} asynchronously on the common fork join pool, or on a virtual thread
+     * when running on Java 21 or newer.
+     */
+    static CompletableFuture<StringList> createAsync(Supplier<BreakIterator> breakIteratorSupplier, String text) {
+        return CompletableFuture.supplyAsync(() -> createParallel(breakIteratorSupplier, text), Concurrency.defaultExecutor());
+    }
+
     /**
      * Creates a new StringList using the provided List as backing list, meaning changes made to this StringList will affect the provided list
      */
@@ -196,6 +280,18 @@ public interface StringList extends List<String> {
         return stringList;
     }
 
+    /**
+     * Compute the edit script transforming list a into list b as hunks of equal, deleted and inserted values, see
+     * {@link StringListDiff#diff(List, List)}.
+     *
+     * @param a the original list
+     * @param b the modified list
+     * @return the hunks in order, covering both lists completely
+     */
+    static List<StringListDiff.Hunk> diff(List<String> a, List<String> b) {
+        return StringListDiff.diff(a, b);
+    }
+
     static Collector<String, StringList, StringList> collector() {
         return new Collector<String, StringList, StringList>() {
             @Override
@@ -248,6 +344,85 @@ public interface StringList extends List<String> {
      */
     boolean containsAll(Collection<?> c, boolean ignoreCase);
 
+    /**
+     * Append all distinct values of the provided collection that are not contained in this list. The values already
+     * in this list, including duplicates, keep their position.
+     *
+     * @param c the values to add
+     * @return this StringList
+     */
+    StringList union(Collection<? extends String> c);
+
+    /**
+     * Like {@link #union(Collection)} but optionally ignores the case of the compared strings, in which case only the
+     * first of several values of the collection that only differ in case is added
+     */
+    StringList union(Collection<? extends String> c, boolean ignoreCase);
+
+    /**
+     * Retain only the values contained in the provided collection, keeping their order. Unlike
+     * {@link #retainAll(Collection)} this looks up values in a hash set built from the smaller of both sides rather
+     * than calling {@link Collection#contains(Object)} of the provided collection for each value.
+     *
+     * @param c the values to retain
+     * @return this StringList
+     */
+    StringList intersect(Collection<?> c);
+
+    /**
+     * Like {@link #intersect(Collection)} but optionally ignores the case of the compared strings
+     */
+    StringList intersect(Collection<?> c, boolean ignoreCase);
+
+    /**
+     * Remove all values contained in the provided collection, keeping the order of the remaining values. Unlike
+     * {@link #removeAll(Collection)} this looks up values in a hash set built from the smaller of both sides rather
+     * than calling {@link Collection#contains(Object)} of the provided collection for each value.
+     *
+     * @param c the values to remove
+     * @return this StringList
+     */
+    StringList difference(Collection<?> c);
+
+    /**
+     * Like {@link #difference(Collection)} but optionally ignores the case of the compared strings
+     */
+    StringList difference(Collection<?> c, boolean ignoreCase);
+
+    /**
+     * Remove all values contained in the provided collection and append all distinct values of the collection that
+     * were not contained in this list, so that the list contains all values that are contained in exactly one of
+     * both sides. The remaining values of this list keep their order and precede the appended values.
+     *
+     * @param c the values to compare against
+     * @return this StringList
+     */
+    StringList symmetricDifference(Collection<? extends String> c);
+
+    /**
+     * Like {@link #symmetricDifference(Collection)} but optionally ignores the case of the compared strings
+     */
+    StringList symmetricDifference(Collection<? extends String> c, boolean ignoreCase);
+
+    /**
+     * Estimate the number of distinct values in this list using HyperLogLog with the precision of
+     * {@link StringSketch#DEFAULT_PRECISION}, which uses a fixed amount of memory regardless of the size of the list.
+     * Use a {@link StringSketch} to combine the estimate over several lists or streams.
+     *
+     * @return the estimated number of distinct values
+     */
+    long approximateDistinctCount();
+
+    /**
+     * Estimate the k most frequent values of this list using the Space-Saving algorithm tracking max(1024, 4k) values,
+     * which uses a fixed amount of memory regardless of the number of distinct values. Use a {@link StringSketch} to
+     * combine the estimate over several lists or streams.
+     *
+     * @param k the number of values to return
+     * @return the values with their estimated counts ordered by descending count
+     */
+    List<Map.Entry<String, Long>> topK(int k);
+
     /**
      * @return StringList values as String
      */
@@ -353,6 +528,55 @@ public interface StringList extends List<String> {
      */
     StringList subList(int beginIndex);
 
+    /**
+     * Get all windows of n consecutive values of this list. Unlike {@link #subList(int, int)} the windows are read-only
+     * views of this list rather than copies, so neither the returned list nor the windows copy any values. The views
+     * must not be used after this list has been structurally modified.
+     *
+     * @param n the number of values per window
+     * @return the size() - n + 1 windows in order, or an empty list if this list has fewer than n values
+     */
+    List<StringList> ngrams(int n);
+
+    /**
+     * Compute a 64 bit hash for each window of n consecutive values, the windows being the same as the ones returned
+     * by {@link #ngrams(int)}. Each value is hashed once and the hashes of the windows are computed using a rolling
+     * hash, so this runs in linear time regardless of n. Equal windows produce equal hashes, which makes the result
+     * suitable for near-duplicate detection, e.g. as input for MinHash.
+     *
+     * @param n the number of values per window
+     * @return the hashes of the windows in order, or an empty array if this list has fewer than n values
+     */
+    long[] shingleHashes(int n);
+
+    /**
+     * Sort this list in natural order, like {@link List#sort(Comparator)} with a null comparator. Uses multikey
+     * quicksort, which does not compare the common prefixes of the values repeatedly, and sorts large lists in parallel.
+     *
+     * @return this StringList
+     * @throws NullPointerException if this list contains null
+     */
+    StringList sortNatural();
+
+    /**
+     * Sort this list ignoring case as defined by {@link String#CASE_INSENSITIVE_ORDER}, sorting large lists in
+     * parallel. The sort is stable, so values that only differ in case keep their order.
+     *
+     * @return this StringList
+     */
+    StringList sortIgnoreCase();
+
+    /**
+     * Sort this list using the provided collator for locale sensitive ordering. The {@link java.text.CollationKey} of
+     * each value is computed once, so that comparisons do not apply the collation rules over and over again. The sort
+     * is stable.
+     *
+     * @param collator the collator defining the order, or null to sort in natural order like
+     *                 {@link List#sort(Comparator)} does
+     * @return this StringList
+     */
+    StringList sort(Collator collator);
+
     /**
      * assert that any condition from one of the StringList methods is true
      * <p>
@@ -411,6 +635,48 @@ public interface StringList extends List<String> {
      */
     StringList applyForEach(Function<String, String> action, int beginIndex, int endIndex);
 
+    /**
+     * Like {@link #applyForEach(Function)} for asynchronous operations like remote lookups, but creates a new list
+     * rather than modifying this one. The operation for the next value is started whenever one of the at most
+     * maxInFlight pending operations completes, so the number of concurrent requests stays bounded regardless of the
+     * size of this list. The values are read when this method is called.
+     *
+     * @param mapper      the asynchronous operation producing the new value for a value
+     * @param maxInFlight the maximum number of pending operations
+     * @return a future completed with the mapped values in the order of this list, or completed exceptionally with the
+     * first failure of the mapper, after which no further operations are started
+     */
+    CompletableFuture<StringList> mapAsync(Function<String, CompletableFuture<String>> mapper, int maxInFlight);
+
+    /**
+     * Like {@link #mapBatched(Function, int, Executor)} but runs the batches on the common fork join pool, or on
+     * virtual threads when running on Java 21 or newer.
+     */
+    CompletableFuture<StringList> mapBatched(Function<List<String>, List<String>> mapper, int batchSize);
+
+    /**
+     * Like {@link #mapBatched(Function, int, int, Executor)} with at most as many batches in flight as there are
+     * available processors.
+     */
+    CompletableFuture<StringList> mapBatched(Function<List<String>, List<String>> mapper, int batchSize, Executor executor);
+
+    /**
+     * Create a new list by applying a blocking operation, like a bulk lookup, to consecutive batches of values of this
+     * list, each on the provided executor. The next batch is only submitted once one of the at most maxInFlight
+     * running batches completed, so the number of batches processed at the same time stays bounded regardless of the
+     * executor. The values are read when this method is called.
+     *
+     * @param mapper      the operation returning the new values for a batch of values, in the same order and of the
+     *                    same size as the batch
+     * @param batchSize   the number of values per batch, only the last batch may be smaller
+     * @param maxInFlight the maximum number of batches submitted to the executor that have not completed yet
+     * @param executor    the executor running the batches
+     * @return a future completed with the mapped values in the order of this list, or completed exceptionally with the
+     * first failure of a batch, including batches that returned a different number of values, after which no further
+     * batches are submitted
+     */
+    CompletableFuture<StringList> mapBatched(Function<List<String>, List<String>> mapper, int batchSize, int maxInFlight, Executor executor);
+
     /**
      * Assert that all values in this list are unique
      *
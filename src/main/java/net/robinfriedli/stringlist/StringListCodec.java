@@ -0,0 +1,316 @@
+package net.robinfriedli.stringlist;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format for lists of strings. The layout is:
+ * <pre>
+ * byte   version
+ * byte   flags           (bit 0: dictionary section present)
+ * varint size
+ * [varint dictionary size, dictionary size * value]   if the dictionary flag is set
+ * size * value                                        without dictionary
+ * size * varint index into the dictionary             with dictionary
+ * </pre>
+ * where each value is a varint header of {@code (byteLength << 2) | encoding} followed by the payload, encoding being
+ * 0 for null, 1 for Latin-1, 2 for UTF-8 and 3 for big endian UTF-16. Values that only consist of Latin-1 characters
+ * are written using one byte per character. UTF-16 is only used for values containing unpaired surrogates, which UTF-8
+ * cannot represent, so that every value is read back exactly as written.
+ * <p>
+ * Decoding does not copy or decode the payload, see {@link #decode(ByteBuffer)}.
+ */
+public final class StringListCodec {
+
+    static final byte VERSION = 1;
+    static final int FLAG_DICTIONARY = 1;
+
+    static final int ENCODING_NULL = 0;
+    static final int ENCODING_LATIN1 = 1;
+    static final int ENCODING_UTF8 = 2;
+    static final int ENCODING_UTF16 = 3;
+
+    // the length is stored in the value header shifted by the two encoding bits
+    static final int MAX_VALUE_LENGTH = Integer.MAX_VALUE >>> 2;
+
+    private StringListCodec() {
+    }
+
+    /**
+     * Encode the provided list into a new heap buffer, positioned at 0 and limited to the length of the encoded data.
+     *
+     * @param values        the values to encode
+     * @param useDictionary whether to write each distinct value only once and reference it by index, which pays off
+     *                      for lists with many repeated values like token lists
+     * @return the buffer containing the encoded list
+     */
+    public static ByteBuffer encode(List<String> values, boolean useDictionary) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            write(values, outputStream, useDictionary);
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new UncheckedIOException(e);
+        }
+        return ByteBuffer.wrap(outputStream.toByteArray());
+    }
+
+    /**
+     * Write the encoded list to the provided buffer, starting at its current position and advancing it past the
+     * written data.
+     *
+     * @param values        the values to encode
+     * @param target        the buffer to write to
+     * @param useDictionary see {@link #encode(List, boolean)}
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough remaining space, in which case the
+     *                                          position of the buffer is undefined
+     */
+    public static void write(List<String> values, ByteBuffer target, boolean useDictionary) {
+        try {
+            write(values, new ByteBufferOutputStream(target), useDictionary);
+        } catch (IOException e) {
+            // ByteBufferOutputStream does not throw
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write the encoded list to the provided stream. The stream is neither flushed nor closed.
+     *
+     * @param values        the values to encode
+     * @param outputStream  the stream to write to
+     * @param useDictionary see {@link #encode(List, boolean)}
+     */
+    public static void write(List<String> values, OutputStream outputStream, boolean useDictionary) throws IOException {
+        outputStream.write(VERSION);
+        outputStream.write(useDictionary ? FLAG_DICTIONARY : 0);
+        writeVarInt(outputStream, values.size());
+
+        if (useDictionary) {
+            Map<String, Integer> dictionary = new LinkedHashMap<>();
+            for (String value : values) {
+                dictionary.putIfAbsent(value, dictionary.size());
+            }
+
+            writeVarInt(outputStream, dictionary.size());
+            for (String value : dictionary.keySet()) {
+                writeValue(outputStream, value);
+            }
+            for (String value : values) {
+                writeVarInt(outputStream, dictionary.get(value));
+            }
+        } else {
+            for (String value : values) {
+                writeValue(outputStream, value);
+            }
+        }
+    }
+
+    /**
+     * Read a list written by this codec starting at the current position of the provided buffer. The position of the
+     * buffer is advanced past the encoded list, so several lists written back to back can be read one after another.
+     * <p>
+     * This only scans the buffer once to record where each value starts, the values themselves are decoded each time
+     * they are accessed. The returned list is a read-only view over the buffer, so the buffer must not be modified
+     * while the list is in use. Use {@link StringList#create(Iterable)} to get a modifiable copy.
+     *
+     * @param source the buffer to read from
+     * @return a read-only StringList backed by the buffer
+     * @throws IllegalArgumentException if the buffer does not contain a list written by this codec
+     */
+    public static StringList decode(ByteBuffer source) {
+        ByteBuffer buffer = source.slice();
+        try {
+            int version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported StringList encoding version " + version);
+            }
+            int flags = buffer.get();
+            int size = readCount(buffer);
+
+            BufferStringList list;
+            if ((flags & FLAG_DICTIONARY) != 0) {
+                int dictionarySize = readCount(buffer);
+                int[] dictionaryOffsets = skipValues(buffer, dictionarySize);
+                int[] indices = new int[size];
+                for (int i = 0; i < size; i++) {
+                    int index = readVarInt(buffer);
+                    if (index < 0 || index >= dictionarySize) {
+                        throw new IllegalArgumentException("Dictionary index " + index + " out of bounds for dictionary of size " + dictionarySize);
+                    }
+                    indices[i] = index;
+                }
+                list = new BufferStringList(buffer.duplicate(), dictionaryOffsets, indices);
+            } else {
+                int[] offsets = skipValues(buffer, size);
+                list = new BufferStringList(buffer.duplicate(), offsets, null);
+            }
+
+            source.position(source.position() + buffer.position());
+            return new StringListImpl(list);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated StringList encoding", e);
+        }
+    }
+
+    static String readValue(ByteBuffer buffer, int offset) {
+        int header = 0;
+        int shift = 0;
+        int position = offset;
+        byte b;
+        do {
+            b = buffer.get(position++);
+            header |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+
+        int encoding = header & 3;
+        if (encoding == ENCODING_NULL) {
+            return null;
+        }
+
+        int length = header >>> 2;
+        if (encoding == ENCODING_UTF16) {
+            char[] chars = new char[length / 2];
+            ByteBuffer duplicate = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+            duplicate.position(position);
+            duplicate.asCharBuffer().get(chars);
+            return new String(chars);
+        }
+
+        Charset charset = encoding == ENCODING_LATIN1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8;
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + position, length, charset);
+        } else {
+            byte[] bytes = new byte[length];
+            ByteBuffer duplicate = buffer.duplicate();
+            duplicate.position(position);
+            duplicate.get(bytes);
+            return new String(bytes, charset);
+        }
+    }
+
+    private static int[] skipValues(ByteBuffer buffer, int count) {
+        int[] offsets = new int[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = buffer.position();
+            int header = readVarInt(buffer);
+            int length = header >>> 2;
+            if ((header & 3) == ENCODING_UTF16 && length % 2 != 0) {
+                throw new IllegalArgumentException("Odd length " + length + " of UTF-16 value at offset " + offsets[i]);
+            }
+            if (length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            buffer.position(buffer.position() + length);
+        }
+        return offsets;
+    }
+
+    private static void writeValue(OutputStream outputStream, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(outputStream, ENCODING_NULL);
+            return;
+        }
+
+        int encoding = ENCODING_LATIN1;
+        for (int i = 0; i < value.length() && encoding != ENCODING_UTF16; i++) {
+            char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                encoding = ENCODING_UTF8;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                encoding = ENCODING_UTF16;
+            } else if (c > 0xFF) {
+                encoding = ENCODING_UTF8;
+            }
+        }
+
+        if (encoding == ENCODING_UTF16 && value.length() > MAX_VALUE_LENGTH / 2) {
+            throw new IllegalArgumentException("Cannot encode value of " + value.length() + " chars as UTF-16, the maximum is " + MAX_VALUE_LENGTH / 2);
+        }
+
+        byte[] bytes;
+        if (encoding == ENCODING_UTF16) {
+            // String#getBytes replaces unpaired surrogates for every charset, so the chars are copied as they are
+            ByteBuffer buffer = ByteBuffer.allocate(value.length() * 2).order(ByteOrder.BIG_ENDIAN);
+            buffer.asCharBuffer().put(value);
+            bytes = buffer.array();
+        } else {
+            bytes = value.getBytes(encoding == ENCODING_LATIN1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        }
+
+        if (bytes.length > MAX_VALUE_LENGTH) {
+            throw new IllegalArgumentException("Cannot encode value of " + bytes.length + " bytes, the maximum is " + MAX_VALUE_LENGTH);
+        }
+        writeVarInt(outputStream, (bytes.length << 2) | encoding);
+        outputStream.write(bytes);
+    }
+
+    /**
+     * Read the number of values or dictionary entries that follow. Every value and index takes at least one byte, so a
+     * count exceeding the remaining bytes can only stem from a corrupt buffer and is rejected before allocating arrays
+     * of that size.
+     */
+    private static int readCount(ByteBuffer buffer) {
+        int count = readVarInt(buffer);
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid count " + count + " with " + buffer.remaining() + " bytes remaining");
+        }
+        return count;
+    }
+
+    static void writeVarInt(OutputStream outputStream, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            outputStream.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        outputStream.write(value);
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            // the fifth byte may only hold the remaining 4 bits of a 32 bit value and must be the last one
+            if (shift == 28 && (b & 0xF0) != 0) {
+                throw new IllegalArgumentException("Malformed varint ending at offset " + buffer.position());
+            }
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static class ByteBufferOutputStream extends OutputStream {
+
+        private final ByteBuffer target;
+
+        ByteBufferOutputStream(ByteBuffer target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) {
+            target.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            target.put(b, off, len);
+        }
+    }
+
+}
@@ -0,0 +1,275 @@
+package net.robinfriedli.stringlist;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the shortest edit script transforming one list of strings into another using Myers' O(ND) difference
+ * algorithm with the linear space refinement, where N is the combined size of both lists and D the size of the edit
+ * script. Values are mapped to int ids first so that the algorithm only compares ints, and common prefixes and suffixes
+ * are skipped before each step of the divide and conquer.
+ */
+public final class StringListDiff {
+
+    private StringListDiff() {
+    }
+
+    /**
+     * Compute the edit script transforming list a into list b. Within a run of changes deletions precede insertions.
+     *
+     * @param a the original list
+     * @param b the modified list
+     * @return the hunks of equal, deleted and inserted values, in order and covering both lists completely
+     */
+    public static List<Hunk> diff(List<String> a, List<String> b) {
+        String[] source = a.toArray(new String[0]);
+        String[] target = b.toArray(new String[0]);
+
+        Map<String, Integer> ids = Maps.newHashMapWithExpectedSize(source.length);
+        int[] sourceIds = toIds(source, ids);
+        int[] targetIds = toIds(target, ids);
+
+        boolean[] deleted = new boolean[source.length];
+        boolean[] inserted = new boolean[target.length];
+        new Comparison(sourceIds, targetIds, deleted, inserted).compare(0, source.length, 0, target.length);
+
+        return toHunks(source, target, deleted, inserted);
+    }
+
+    private static int[] toIds(String[] values, Map<String, Integer> ids) {
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Integer id = ids.get(values[i]);
+            if (id == null) {
+                id = ids.size();
+                ids.put(values[i], id);
+            }
+            result[i] = id;
+        }
+        return result;
+    }
+
+    private static List<Hunk> toHunks(String[] source, String[] target, boolean[] deleted, boolean[] inserted) {
+        List<Hunk> hunks = Lists.newArrayList();
+        int i = 0;
+        int j = 0;
+        while (i < source.length || j < target.length) {
+            if (i < source.length && deleted[i]) {
+                int start = i;
+                while (i < source.length && deleted[i]) {
+                    i++;
+                }
+                hunks.add(new Hunk(Operation.DELETE, start, j, source, start, i));
+            } else if (j < target.length && inserted[j]) {
+                int start = j;
+                while (j < target.length && inserted[j]) {
+                    j++;
+                }
+                hunks.add(new Hunk(Operation.INSERT, i, start, target, start, j));
+            } else {
+                int startSource = i;
+                int startTarget = j;
+                while (i < source.length && j < target.length && !deleted[i] && !inserted[j]) {
+                    i++;
+                    j++;
+                }
+                hunks.add(new Hunk(Operation.EQUAL, startSource, startTarget, source, startSource, i));
+            }
+        }
+        return hunks;
+    }
+
+    public enum Operation {
+        EQUAL,
+        INSERT,
+        DELETE
+    }
+
+    /**
+     * A run of values that are either contained in both lists, only in the original list or only in the modified list.
+     */
+    public static final class Hunk {
+
+        private final Operation operation;
+        private final int sourceIndex;
+        private final int targetIndex;
+        private final StringList values;
+
+        private Hunk(Operation operation, int sourceIndex, int targetIndex, String[] values, int from, int to) {
+            this.operation = operation;
+            this.sourceIndex = sourceIndex;
+            this.targetIndex = targetIndex;
+            this.values = StringList.of(Arrays.copyOfRange(values, from, to));
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * @return the index of the first value of this hunk in the original list, or for insertions the index in the
+         * original list the values are inserted at
+         */
+        public int getSourceIndex() {
+            return sourceIndex;
+        }
+
+        /**
+         * @return the index of the first value of this hunk in the modified list, or for deletions the index in the
+         * modified list the values were removed at
+         */
+        public int getTargetIndex() {
+            return targetIndex;
+        }
+
+        public StringList getValues() {
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return operation + "@" + sourceIndex + "," + targetIndex + values.getValues();
+        }
+    }
+
+    /**
+     * Marks the deleted and inserted values by recursively splitting both sequences at the middle snake of an optimal
+     * edit path.
+     */
+    private static class Comparison {
+
+        private final int[] a;
+        private final int[] b;
+        private final boolean[] deleted;
+        private final boolean[] inserted;
+
+        Comparison(int[] a, int[] b, boolean[] deleted, boolean[] inserted) {
+            this.a = a;
+            this.b = b;
+            this.deleted = deleted;
+            this.inserted = inserted;
+        }
+
+        void compare(int aStart, int aEnd, int bStart, int bEnd) {
+            while (aStart < aEnd && bStart < bEnd && a[aStart] == b[bStart]) {
+                aStart++;
+                bStart++;
+            }
+            while (aStart < aEnd && bStart < bEnd && a[aEnd - 1] == b[bEnd - 1]) {
+                aEnd--;
+                bEnd--;
+            }
+
+            if (aStart == aEnd) {
+                Arrays.fill(inserted, bStart, bEnd, true);
+            } else if (bStart == bEnd) {
+                Arrays.fill(deleted, aStart, aEnd, true);
+            } else {
+                bisect(aStart, aEnd, bStart, bEnd);
+            }
+        }
+
+        /**
+         * Find the point where the furthest reaching forward and reverse paths overlap and compare the sequences before
+         * and after that point separately.
+         */
+        private void bisect(int aStart, int aEnd, int bStart, int bEnd) {
+            int n = aEnd - aStart;
+            int m = bEnd - bStart;
+            int maxD = (n + m + 1) / 2;
+            int offset = maxD;
+            int length = 2 * maxD + 2;
+            int[] forward = new int[length];
+            int[] reverse = new int[length];
+            Arrays.fill(forward, -1);
+            Arrays.fill(reverse, -1);
+            forward[offset + 1] = 0;
+            reverse[offset + 1] = 0;
+            int delta = n - m;
+            // if the difference in length is odd, the forward path overlaps the reverse path, else the other way around
+            boolean checkInForward = delta % 2 != 0;
+
+            int forwardStart = 0;
+            int forwardEnd = 0;
+            int reverseStart = 0;
+            int reverseEnd = 0;
+            for (int d = 0; d < maxD; d++) {
+                for (int k = -d + forwardStart; k <= d - forwardEnd; k += 2) {
+                    int kOffset = offset + k;
+                    int x;
+                    if (k == -d || (k != d && forward[kOffset - 1] < forward[kOffset + 1])) {
+                        x = forward[kOffset + 1];
+                    } else {
+                        x = forward[kOffset - 1] + 1;
+                    }
+                    int y = x - k;
+                    while (x < n && y < m && a[aStart + x] == b[bStart + y]) {
+                        x++;
+                        y++;
+                    }
+                    forward[kOffset] = x;
+
+                    if (x > n) {
+                        forwardEnd += 2;
+                    } else if (y > m) {
+                        forwardStart += 2;
+                    } else if (checkInForward) {
+                        int reverseOffset = offset + delta - k;
+                        if (reverseOffset >= 0 && reverseOffset < length && reverse[reverseOffset] != -1) {
+                            if (x >= n - reverse[reverseOffset]) {
+                                split(aStart, aEnd, bStart, bEnd, x, y);
+                                return;
+                            }
+                        }
+                    }
+                }
+
+                for (int k = -d + reverseStart; k <= d - reverseEnd; k += 2) {
+                    int kOffset = offset + k;
+                    int x;
+                    if (k == -d || (k != d && reverse[kOffset - 1] < reverse[kOffset + 1])) {
+                        x = reverse[kOffset + 1];
+                    } else {
+                        x = reverse[kOffset - 1] + 1;
+                    }
+                    int y = x - k;
+                    while (x < n && y < m && a[aEnd - x - 1] == b[bEnd - y - 1]) {
+                        x++;
+                        y++;
+                    }
+                    reverse[kOffset] = x;
+
+                    if (x > n) {
+                        reverseEnd += 2;
+                    } else if (y > m) {
+                        reverseStart += 2;
+                    } else if (!checkInForward) {
+                        int forwardOffset = offset + delta - k;
+                        if (forwardOffset >= 0 && forwardOffset < length && forward[forwardOffset] != -1) {
+                            int forwardX = forward[forwardOffset];
+                            int forwardY = offset + forwardX - forwardOffset;
+                            if (forwardX >= n - x) {
+                                split(aStart, aEnd, bStart, bEnd, forwardX, forwardY);
+                                return;
+                            }
+                        }
+                    }
+                }
+            }
+
+            // no overlap found, which only happens if the sequences have nothing in common
+            Arrays.fill(deleted, aStart, aEnd, true);
+            Arrays.fill(inserted, bStart, bEnd, true);
+        }
+
+        private void split(int aStart, int aEnd, int bStart, int bEnd, int x, int y) {
+            compare(aStart, aStart + x, bStart, bStart + y);
+            compare(aStart + x, aEnd, bStart + y, bEnd);
+        }
+    }
+
+}
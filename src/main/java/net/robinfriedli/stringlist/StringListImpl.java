@@ -1,16 +1,25 @@
 package net.robinfriedli.stringlist;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 import javax.annotation.Nonnull;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.text.Collator;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 public class StringListImpl implements StringList {
 
+    private static final int HASH_THRESHOLD = 256;
+    // DESERET CAPITAL LETTER LONG I and its lower case form, only equal ignoring case when compared by code point
+    private static final boolean FOLD_CODE_POINTS = "\uD801\uDC00".equalsIgnoreCase("\uD801\uDC28");
+    private static final long SHINGLE_HASH_BASE = 0x100000001B3L;
+
     private List<String> values;
 
     public StringListImpl(List<String> stringList) {
@@ -99,11 +108,17 @@ public class StringListImpl implements StringList {
 
     @Override
     public boolean removeAll(Collection<?> c) {
+        if (shouldHash(c)) {
+            return compact(lookupSet(c, false), false, false);
+        }
         return values.removeAll(c);
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
+        if (shouldHash(c)) {
+            return compact(lookupSet(c, false), false, true);
+        }
         return values.retainAll(c);
     }
 
@@ -114,15 +129,106 @@ public class StringListImpl implements StringList {
 
     @Override
     public boolean containsAll(Collection<?> c) {
+        if (shouldHash(c)) {
+            return containsAllKeys(c, false);
+        }
         return values.containsAll(c);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public boolean containsAll(Collection c, boolean ignoreCase) {
+        if (ignoreCase && shouldHash(c)) {
+            return containsAllKeys(c, true);
+        }
         return c.stream().allMatch(o -> contains(o, ignoreCase));
     }
 
+    @Override
+    public StringList union(Collection<? extends String> c) {
+        return union(c, false);
+    }
+
+    @Override
+    public StringList union(Collection<? extends String> c, boolean ignoreCase) {
+        Set<Object> keys = keySet(values, ignoreCase);
+        List<String> toAdd = Lists.newArrayList();
+        for (String value : c) {
+            if (keys.add(key(value, ignoreCase))) {
+                toAdd.add(value);
+            }
+        }
+
+        values.addAll(toAdd);
+        return this;
+    }
+
+    @Override
+    public StringList intersect(Collection<?> c) {
+        return intersect(c, false);
+    }
+
+    @Override
+    public StringList intersect(Collection<?> c, boolean ignoreCase) {
+        compact(lookupSet(c, ignoreCase), ignoreCase, true);
+        return this;
+    }
+
+    @Override
+    public StringList difference(Collection<?> c) {
+        return difference(c, false);
+    }
+
+    @Override
+    public StringList difference(Collection<?> c, boolean ignoreCase) {
+        compact(lookupSet(c, ignoreCase), ignoreCase, false);
+        return this;
+    }
+
+    @Override
+    public StringList symmetricDifference(Collection<? extends String> c) {
+        return symmetricDifference(c, false);
+    }
+
+    @Override
+    public StringList symmetricDifference(Collection<? extends String> c, boolean ignoreCase) {
+        Set<Object> ownKeys = keySet(values, ignoreCase);
+        Set<Object> otherKeys = Sets.newHashSetWithExpectedSize(c.size());
+        List<String> toAdd = Lists.newArrayList();
+        for (String value : c) {
+            Object key = key(value, ignoreCase);
+            if (otherKeys.add(key) && !ownKeys.contains(key)) {
+                toAdd.add(value);
+            }
+        }
+
+        compact(otherKeys, ignoreCase, false);
+        values.addAll(toAdd);
+        return this;
+    }
+
+    @Override
+    public long approximateDistinctCount() {
+        HyperLogLog hyperLogLog = new HyperLogLog(StringSketch.DEFAULT_PRECISION);
+        for (String value : values) {
+            hyperLogLog.add(StringSketch.hash(value));
+        }
+        return hyperLogLog.estimate();
+    }
+
+    @Override
+    public List<Map.Entry<String, Long>> topK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+
+        HeavyHitters heavyHitters = new HeavyHitters((int) Math.min(Integer.MAX_VALUE - 8, Math.max(StringSketch.DEFAULT_CAPACITY, 4L * k)));
+        for (String value : values) {
+            heavyHitters.add(value);
+        }
+        return heavyHitters.top(k);
+    }
+
     @Override
     public List<String> getValues() {
         return values;
@@ -314,6 +420,94 @@ public class StringListImpl implements StringList {
         return StringList.create(values.subList(beginIndex, size()));
     }
 
+    @Override
+    public List<StringList> ngrams(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+
+        return new AbstractList<StringList>() {
+            @Override
+            public StringList get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+                }
+                return new StringListImpl(Collections.unmodifiableList(values.subList(index, index + n)));
+            }
+
+            @Override
+            public int size() {
+                return Math.max(0, values.size() - n + 1);
+            }
+        };
+    }
+
+    @Override
+    public long[] shingleHashes(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+
+        int size = size();
+        if (size < n) {
+            return new long[0];
+        }
+
+        long[] valueHashes = new long[size];
+        int index = 0;
+        for (String value : values) {
+            valueHashes[index++] = StringSketch.hash(value);
+        }
+
+        // the highest power of the base in the polynomial, used to remove the value leaving the window
+        long outgoingFactor = 1;
+        for (int i = 1; i < n; i++) {
+            outgoingFactor *= SHINGLE_HASH_BASE;
+        }
+
+        long[] hashes = new long[size - n + 1];
+        long hash = 0;
+        for (int i = 0; i < n; i++) {
+            hash = hash * SHINGLE_HASH_BASE + valueHashes[i];
+        }
+        hashes[0] = mix(hash);
+        for (int i = 1; i < hashes.length; i++) {
+            hash = (hash - valueHashes[i - 1] * outgoingFactor) * SHINGLE_HASH_BASE + valueHashes[i + n - 1];
+            hashes[i] = mix(hash);
+        }
+
+        return hashes;
+    }
+
+    @Override
+    public StringList sortNatural() {
+        String[] array = toArray();
+        StringSorting.sortNatural(array);
+        setAll(array);
+        return this;
+    }
+
+    @Override
+    public StringList sortIgnoreCase() {
+        String[] array = toArray();
+        Arrays.parallelSort(array, String.CASE_INSENSITIVE_ORDER);
+        setAll(array);
+        return this;
+    }
+
+    @Override
+    public StringList sort(Collator collator) {
+        if (collator == null) {
+            // sort(null) resolves to this method rather than List#sort(Comparator), so keep its meaning
+            return sortNatural();
+        }
+
+        String[] array = toArray();
+        StringSorting.sortCollated(array, collator);
+        setAll(array);
+        return this;
+    }
+
     @Override
     public void assertThat(Predicate<StringList> predicate, String errorMessage) throws AssertionError {
         if (predicate.negate().test(this)) {
@@ -361,6 +555,26 @@ public class StringListImpl implements StringList {
         return this;
     }
 
+    @Override
+    public CompletableFuture<StringList> mapAsync(Function<String, CompletableFuture<String>> mapper, int maxInFlight) {
+        return AsyncMapping.mapAsync(values, mapper, maxInFlight);
+    }
+
+    @Override
+    public CompletableFuture<StringList> mapBatched(Function<List<String>, List<String>> mapper, int batchSize) {
+        return mapBatched(mapper, batchSize, Concurrency.defaultExecutor());
+    }
+
+    @Override
+    public CompletableFuture<StringList> mapBatched(Function<List<String>, List<String>> mapper, int batchSize, Executor executor) {
+        return mapBatched(mapper, batchSize, Concurrency.defaultMaxInFlight(), executor);
+    }
+
+    @Override
+    public CompletableFuture<StringList> mapBatched(Function<List<String>, List<String>> mapper, int batchSize, int maxInFlight, Executor executor) {
+        return AsyncMapping.mapBatched(values, mapper, batchSize, maxInFlight, executor);
+    }
+
     @Override
     public void assertUnique() throws AssertionError {
         // cannot use the assertUnique(Class) method because AssertionError uses an Object instead of a String as message
@@ -463,6 +677,158 @@ public class StringListImpl implements StringList {
         }
     }
 
+    /**
+     * Replace the values of this list with the values of the array, which has to be of the same size.
+     */
+    private void setAll(String[] array) {
+        if (values instanceof RandomAccess) {
+            for (int i = 0; i < array.length; i++) {
+                values.set(i, array[i]);
+            }
+        } else {
+            ListIterator<String> iterator = values.listIterator();
+            for (String value : array) {
+                iterator.next();
+                iterator.set(value);
+            }
+        }
+    }
+
+    /**
+     * Bulk operations taking a collection only build a hash set for arguments that do not offer fast lookups already
+     * and are large enough for hashing to pay off.
+     */
+    private boolean shouldHash(Collection<?> c) {
+        return !(c instanceof Set) && (long) size() * c.size() > HASH_THRESHOLD;
+    }
+
+    /**
+     * Build a set that contains the key of each value of this list that is also contained in the provided collection,
+     * hashing whichever side is smaller.
+     */
+    private Set<?> lookupSet(Collection<?> c, boolean ignoreCase) {
+        if (!ignoreCase && c instanceof Set) {
+            return (Set<?>) c;
+        }
+
+        if (c.size() <= size()) {
+            return keySet(c, ignoreCase);
+        }
+
+        Set<Object> ownKeys = keySet(values, ignoreCase);
+        Set<Object> matchedKeys = Sets.newHashSet();
+        for (Object o : c) {
+            Object key = key(o, ignoreCase);
+            if (ownKeys.contains(key)) {
+                matchedKeys.add(key);
+            }
+        }
+        return matchedKeys;
+    }
+
+    /**
+     * Check whether the key of each element of the provided collection is the key of a value of this list, hashing
+     * whichever side is smaller. If the collection is smaller, the list is scanned once and the scan stops as soon as
+     * all elements have been found.
+     */
+    private boolean containsAllKeys(Collection<?> c, boolean ignoreCase) {
+        if (c.size() <= size()) {
+            Set<Object> missingKeys = keySet(c, ignoreCase);
+            for (String value : values) {
+                if (missingKeys.isEmpty()) {
+                    return true;
+                }
+                missingKeys.remove(key(value, ignoreCase));
+            }
+            return missingKeys.isEmpty();
+        }
+
+        Set<Object> ownKeys = keySet(values, ignoreCase);
+        for (Object o : c) {
+            if (!ownKeys.contains(key(o, ignoreCase))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove all values whose key is contained in the provided set if retain is false, or is not contained in it if
+     * retain is true. The resizable lists of this library are compacted in a single pass by moving the retained values
+     * forward and truncating the tail instead of removing values one at a time. Other lists are left to
+     * {@link Collection#removeIf(Predicate)}, which ArrayList implements in a single pass as well and which lists that
+     * do not support removal reject before being modified.
+     *
+     * @return true if this list was modified
+     */
+    private boolean compact(Set<?> keys, boolean ignoreCase, boolean retain) {
+        if (!(values instanceof GapBufferList || values instanceof ModificationTrackingList)) {
+            return values.removeIf(value -> keys.contains(key(value, ignoreCase)) != retain);
+        }
+
+        int size = values.size();
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            String value = values.get(i);
+            if (keys.contains(key(value, ignoreCase)) == retain) {
+                if (retained != i) {
+                    values.set(retained, value);
+                }
+                retained++;
+            }
+        }
+
+        if (retained < size) {
+            values.subList(retained, size).clear();
+            return true;
+        }
+        return false;
+    }
+
+    private static Set<Object> keySet(Collection<?> c, boolean ignoreCase) {
+        Set<Object> keys = Sets.newHashSetWithExpectedSize(c.size());
+        for (Object o : c) {
+            keys.add(key(o, ignoreCase));
+        }
+        return keys;
+    }
+
+    private static Object key(Object o, boolean ignoreCase) {
+        return ignoreCase && o instanceof String ? foldCase((String) o) : o;
+    }
+
+    /**
+     * Map each character the same way {@link String#equalsIgnoreCase(String)} compares them, so that two strings are
+     * equal ignoring case if and only if their folded forms are equal. Since Java 16 equalsIgnoreCase compares
+     * supplementary characters by code point rather than comparing their surrogates one char at a time, so this folds
+     * whichever way the running JDK compares.
+     */
+    private static String foldCase(String s) {
+        if (FOLD_CODE_POINTS) {
+            StringBuilder builder = new StringBuilder(s.length());
+            s.codePoints().forEach(codePoint -> builder.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint))));
+            return builder.toString();
+        }
+
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Finalisation step of MurmurHash3 spreading the bits of the polynomial rolling hash.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
     private Character[] stringToCharacterArray(String string) {
         return string.chars().mapToObj(c -> (char) c).toArray(Character[]::new);
     }
@@ -0,0 +1,145 @@
+package net.robinfriedli.stringlist;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Fixed size summary of a stream of strings that estimates the number of distinct values using HyperLogLog and the
+ * most frequent values using the Space-Saving algorithm. Memory usage only depends on the precision and capacity, not
+ * on the number of values added.
+ * <p>
+ * A sketch is not thread safe, but sketches with the same precision built from separate lists or streams, for instance
+ * on different threads, can be combined using {@link #merge(StringSketch)} or {@link #collector()}.
+ */
+public class StringSketch {
+
+    public static final int DEFAULT_PRECISION = 14;
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+
+    private final HyperLogLog distinctValues;
+    private final HeavyHitters heavyHitters;
+    private long count;
+
+    public StringSketch() {
+        this(DEFAULT_PRECISION, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param precision the HyperLogLog precision p between 4 and 18, the distinct count has a standard error of about
+     *                  1.04 / sqrt(2^p) and the sketch uses 2^p bytes for it
+     * @param capacity  the number of values tracked to estimate the most frequent values, any value that makes up more
+     *                  than 1 / capacity of all values is guaranteed to be tracked
+     */
+    public StringSketch(int precision, int capacity) {
+        distinctValues = new HyperLogLog(precision);
+        heavyHitters = new HeavyHitters(capacity);
+    }
+
+    public static Collector<String, StringSketch, StringSketch> collector() {
+        return new Collector<String, StringSketch, StringSketch>() {
+            @Override
+            public Supplier<StringSketch> supplier() {
+                return StringSketch::new;
+            }
+
+            @Override
+            public BiConsumer<StringSketch, String> accumulator() {
+                return StringSketch::add;
+            }
+
+            @Override
+            public BinaryOperator<StringSketch> combiner() {
+                return StringSketch::merge;
+            }
+
+            @Override
+            public Function<StringSketch, StringSketch> finisher() {
+                return sketch -> sketch;
+            }
+
+            @Override
+            public Set<Characteristics> characteristics() {
+                return Collections.unmodifiableSet(EnumSet.of(Characteristics.IDENTITY_FINISH, Characteristics.UNORDERED));
+            }
+        };
+    }
+
+    static long hash(String value) {
+        return value != null ? HASH_FUNCTION.hashUnencodedChars(value).asLong() : NULL_HASH;
+    }
+
+    public void add(String value) {
+        distinctValues.add(hash(value));
+        heavyHitters.add(value);
+        count++;
+    }
+
+    /**
+     * Add all provided values to this sketch.
+     *
+     * @return this sketch
+     */
+    public StringSketch addAll(Iterable<String> values) {
+        for (String value : values) {
+            add(value);
+        }
+        return this;
+    }
+
+    /**
+     * Merge the provided sketch into this one so that this sketch summarises the values added to both.
+     *
+     * @param other the sketch to merge, which is left unchanged
+     * @return this sketch
+     * @throws IllegalArgumentException if the sketches do not have the same precision
+     */
+    public StringSketch merge(StringSketch other) {
+        distinctValues.merge(other.distinctValues);
+        heavyHitters.merge(other.heavyHitters);
+        count += other.count;
+        return this;
+    }
+
+    /**
+     * @return the estimated number of distinct values added to this sketch
+     */
+    public long approximateDistinctCount() {
+        return distinctValues.estimate();
+    }
+
+    /**
+     * Estimate the k most frequent values. The counts are upper bounds of the actual counts. The result is exact if
+     * fewer distinct values than the capacity of this sketch have been added.
+     *
+     * @param k the number of values to return, at most the capacity of this sketch
+     * @return the values with their estimated counts ordered by descending count
+     */
+    public List<Map.Entry<String, Long>> topK(int k) {
+        if (k < 0 || k > heavyHitters.getCapacity()) {
+            throw new IllegalArgumentException("k must be between 0 and the capacity " + heavyHitters.getCapacity() + ": " + k);
+        }
+        return heavyHitters.top(k);
+    }
+
+    /**
+     * @return the total number of values added to this sketch
+     */
+    public long count() {
+        return count;
+    }
+
+}
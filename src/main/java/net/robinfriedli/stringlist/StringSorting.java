@@ -0,0 +1,209 @@
+package net.robinfriedli.stringlist;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Sorting algorithms for arrays of strings.
+ */
+final class StringSorting {
+
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    // partitions still sharing a prefix this long are sorted by comparison to bound the recursion depth
+    private static final int MAX_DEPTH = 64;
+
+    private StringSorting() {
+    }
+
+    /**
+     * Sort the values in natural order using multikey quicksort, which partitions by one character at a time and thus
+     * never compares the common prefix of the values in a partition again. Partitions larger than
+     * {@link #PARALLEL_THRESHOLD} are sorted in parallel on the common {@link ForkJoinPool}.
+     *
+     * @throws NullPointerException if any value is null
+     */
+    static void sortNatural(String[] values) {
+        for (String value : values) {
+            if (value == null) {
+                throw new NullPointerException("Cannot sort null values in natural order");
+            }
+        }
+
+        if (values.length > PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new MultikeySortTask(values, 0, values.length, 0));
+        } else {
+            multikeySort(values, 0, values.length, 0);
+        }
+    }
+
+    /**
+     * Sort the values using the provided collator. The collation key of each value is computed once up front, so that
+     * comparisons only compare the keys' bytes instead of applying the collation rules for each comparison. Keys of
+     * large arrays are computed in parallel using a clone of the collator per chunk since collators are not thread
+     * safe. The sort is stable.
+     */
+    static void sortCollated(String[] values, Collator collator) {
+        CollationKey[] keys = new CollationKey[values.length];
+        if (values.length > PARALLEL_THRESHOLD) {
+            int chunks = (values.length + PARALLEL_THRESHOLD - 1) / PARALLEL_THRESHOLD;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                Collator chunkCollator = (Collator) collator.clone();
+                int end = Math.min(values.length, (chunk + 1) * PARALLEL_THRESHOLD);
+                for (int i = chunk * PARALLEL_THRESHOLD; i < end; i++) {
+                    keys[i] = chunkCollator.getCollationKey(values[i]);
+                }
+            });
+        } else {
+            for (int i = 0; i < values.length; i++) {
+                keys[i] = collator.getCollationKey(values[i]);
+            }
+        }
+
+        Arrays.parallelSort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = keys[i].getSourceString();
+        }
+    }
+
+    private static void multikeySort(String[] values, int from, int to, int depth) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            if (depth > MAX_DEPTH) {
+                Arrays.sort(values, from, to);
+                return;
+            }
+
+            int[] bounds = partition(values, from, to, depth);
+            int lessEnd = bounds[0];
+            int greaterStart = bounds[1];
+            multikeySort(values, from, lessEnd, depth);
+            if (charAt(values[lessEnd], depth) >= 0) {
+                multikeySort(values, lessEnd, greaterStart, depth + 1);
+            }
+            from = greaterStart;
+        }
+
+        insertionSort(values, from, to, depth);
+    }
+
+    /**
+     * Three way partition of the range by the character at the given depth around the median of three values.
+     *
+     * @return the end of the partition of values with a smaller character and the start of the partition of values
+     * with a greater character, the values in between have the same character as the pivot
+     */
+    private static int[] partition(String[] values, int from, int to, int depth) {
+        int pivot = median(
+            charAt(values[from], depth),
+            charAt(values[from + (to - from) / 2], depth),
+            charAt(values[to - 1], depth)
+        );
+
+        int less = from;
+        int greater = to;
+        int i = from;
+        while (i < greater) {
+            int c = charAt(values[i], depth);
+            if (c < pivot) {
+                swap(values, less++, i++);
+            } else if (c > pivot) {
+                swap(values, i, --greater);
+            } else {
+                i++;
+            }
+        }
+
+        return new int[]{less, greater};
+    }
+
+    private static void insertionSort(String[] values, int from, int to, int depth) {
+        for (int i = from + 1; i < to; i++) {
+            String value = values[i];
+            int j = i;
+            while (j > from && compareFrom(values[j - 1], value, depth) > 0) {
+                values[j] = values[j - 1];
+                j--;
+            }
+            values[j] = value;
+        }
+    }
+
+    private static int compareFrom(String a, String b, int depth) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = depth; i < length; i++) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(i);
+            if (ca != cb) {
+                return ca - cb;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    /**
+     * @return the character at the given index or -1 if the string is not longer than the index, which sorts shorter
+     * strings before longer strings with the same prefix
+     */
+    private static int charAt(String value, int index) {
+        return index < value.length() ? value.charAt(index) : -1;
+    }
+
+    private static int median(int a, int b, int c) {
+        return a < b
+            ? (b < c ? b : Math.max(a, c))
+            : (a < c ? a : Math.max(b, c));
+    }
+
+    private static void swap(String[] values, int i, int j) {
+        String value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    private static class MultikeySortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String[] values;
+        private final int from;
+        private final int to;
+        private final int depth;
+
+        MultikeySortTask(String[] values, int from, int to, int depth) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD || depth > MAX_DEPTH) {
+                multikeySort(values, from, to, depth);
+                return;
+            }
+
+            int[] bounds = partition(values, from, to, depth);
+            int lessEnd = bounds[0];
+            int greaterStart = bounds[1];
+            if (charAt(values[lessEnd], depth) >= 0) {
+                invokeAll(
+                    new MultikeySortTask(values, from, lessEnd, depth),
+                    new MultikeySortTask(values, lessEnd, greaterStart, depth + 1),
+                    new MultikeySortTask(values, greaterStart, to, depth)
+                );
+            } else {
+                invokeAll(
+                    new MultikeySortTask(values, from, lessEnd, depth),
+                    new MultikeySortTask(values, greaterStart, to, depth)
+                );
+            }
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package net.robinfriedli.stringlist;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Java 21 version of {@code ByteMatching} that compares bytes using {@link ByteBuffer#mismatch(ByteBuffer)}, which the
+ * JDK implements with vectorised comparisons of up to 64 bytes at a time instead of comparing single bytes.
+ */
+final class ByteMatching {
+
+    private ByteMatching() {
+    }
+
+    static boolean equals(ByteBuffer buffer, int offset, int length, byte[] bytes) {
+        return length == bytes.length && mismatch(buffer, offset, length, bytes) < 0;
+    }
+
+    static int equalsIgnoreCaseAscii(ByteBuffer buffer, int offset, int length, byte[] bytes) {
+        int common = Math.min(length, bytes.length);
+        // skip the prefix that matches exactly, which for most values that are equal ignoring case is most of it
+        int mismatch = mismatch(buffer, offset, common, bytes);
+        if (mismatch < 0) {
+            mismatch = common;
+        }
+
+        for (int i = mismatch; i < common; i++) {
+            byte a = buffer.get(offset + i);
+            byte b = bytes[i];
+            if (a == b) {
+                continue;
+            }
+            if (a < 0 || b < 0) {
+                return -1;
+            }
+            if (toLowerAscii(a) != toLowerAscii(b)) {
+                return 0;
+            }
+        }
+
+        return length == bytes.length ? 1 : 0;
+    }
+
+    static int isAsciiLetters(ByteBuffer buffer, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(offset + i);
+            if (b < 0) {
+                return -1;
+            }
+            if (!((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z'))) {
+                return 0;
+            }
+        }
+
+        return 1;
+    }
+
+    /**
+     * @return the index of the first of the first {@code length} bytes that differs, or -1 if there is none
+     */
+    private static int mismatch(ByteBuffer buffer, int offset, int length, byte[] bytes) {
+        return buffer.slice(offset, length).mismatch(ByteBuffer.wrap(bytes, 0, length));
+    }
+
+    private static byte toLowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+}
@@ -0,0 +1,25 @@
+package net.robinfriedli.stringlist;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Java 21 version of {@code Concurrency} that runs asynchronous operations on virtual threads, so that blocking tasks
+ * do not occupy the common fork join pool the parallel operations run on.
+ */
+final class Concurrency {
+
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = Thread.ofVirtual().name("StringList-async-", 0).factory();
+
+    private Concurrency() {
+    }
+
+    static Executor defaultExecutor() {
+        return command -> VIRTUAL_THREAD_FACTORY.newThread(command).start();
+    }
+
+    static int defaultMaxInFlight() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+}